@@ -2,6 +2,7 @@ package com.michaeltoledo.orderapi.config;
 
 import com.michaeltoledo.orderapi.exception.BusinessException;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -26,6 +27,7 @@ import java.util.Map;
  * - Estratégia de retry
  * - Envio automático para Dead Letter Topic (DLT)
  * - Exceções que NÃO devem ser reprocessadas
+ * - Consumer "cru" (byte[]) para a própria DLT
  */
 @Configuration
 public class KafkaConsumerConfig {
@@ -96,6 +98,45 @@ public class KafkaConsumerConfig {
         return factory;
     }
 
+    /**
+     * ConsumerFactory da DLT.
+     *
+     * O valor é lido como byte[] (sem JsonDeserializer):
+     * - Um payload inválido (poison pill) chega na DLT com os mesmos bytes
+     * - Se a DLT desserializasse para OrderRequest, falharia de novo
+     *   ANTES do listener, e a mensagem iria para orders.DLT.DLT sem ser registrada
+     */
+    @Bean
+    public ConsumerFactory<String, byte[]> dltConsumerFactory() {
+
+        Map<String, Object> props = new HashMap<>();
+
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, "13.58.13.178:9092");
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, "order-dlt-group");
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+
+        return new DefaultKafkaConsumerFactory<>(props);
+    }
+
+    /**
+     * ContainerFactory usada pelo consumer da DLT.
+     *
+     * Não usa o errorHandler com DLT: não queremos uma DLT da DLT.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> dltKafkaListenerContainerFactory(
+            ConsumerFactory<String, byte[]> dltConsumerFactory
+    ) {
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+
+        factory.setConsumerFactory(dltConsumerFactory);
+
+        return factory;
+    }
+
     /**
      * Estratégia global de tratamento de erro.
      *
@@ -1,12 +1,19 @@
 package com.michaeltoledo.orderapi.consumer;
 
-import com.michaeltoledo.orderapi.dto.OrderRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.michaeltoledo.orderapi.service.DltStatsService;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
 /**
  * Consumer responsável por ler mensagens da Dead Letter Topic.
  *
@@ -14,34 +21,104 @@ import org.springframework.stereotype.Component;
  * - Auditoria
  * - Monitoramento
  * - Reprocessamento manual
+ *
+ * Além dos logs, cada falha é registrada no DltStatsService,
+ * que alimenta o endpoint GET /dlt/stats.
+ *
+ * Horário da falha:
+ * - O DeadLetterPublishingRecoverer publica na DLT com um timestamp NOVO
+ *   (o momento da falha); o timestamp do pedido vai no header DLT_ORIGINAL_TIMESTAMP
+ * - Por isso usamos o RECEIVED_TIMESTAMP do registro da DLT
+ * - Lag deste consumer ou um restart não jogam o backlog no bucket atual,
+ *   e o replay de pedidos antigos no tópico "orders" não faz as falhas "envelhecerem"
+ *
+ * Payload lido como byte[] (dltKafkaListenerContainerFactory):
+ * - Falhas de desserialização também chegam aqui e são contabilizadas
+ * - O produto é extraído do JSON em modo best-effort
  */
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class OrderDltConsumer {
 
+    private final DltStatsService statsService;
+
+    private final ObjectMapper objectMapper;
+
     /**
      * Consome mensagens da DLT.
      *
-     * @param order payload (pode estar vazio)
+     * @param payload bytes originais da mensagem (pode estar vazio ou não ser um JSON válido)
      * @param exceptionMessage mensagem da exceção original
      * @param originalTopic tópico original
      * @param offset offset original
+     * @param failedAt timestamp do registro na DLT, ou seja, o momento da falha
+     * @param exceptionFqcn classe da exceção recebida pelo error handler
+     *                      (normalmente ListenerExecutionFailedException)
+     * @param causeFqcn classe da causa IMEDIATA (exception.getCause()), não da causa raiz.
+     *                  Para erros do listener é a exceção lançada por ele (ex: BusinessException).
+     *                  Para erros de desserialização costuma ser a exceção do Jackson.
      */
     @KafkaListener(
             topics = "orders.DLT",
-            groupId = "order-dlt-group"
+            groupId = "order-dlt-group",
+            containerFactory = "dltKafkaListenerContainerFactory"
     )
     public void consumeDlt(
-            OrderRequest order,
+            @Payload(required = false) byte[] payload,
             @Header(KafkaHeaders.DLT_EXCEPTION_MESSAGE) String exceptionMessage,
             @Header(KafkaHeaders.DLT_ORIGINAL_TOPIC) String originalTopic,
-            @Header(KafkaHeaders.OFFSET) long offset
+            @Header(KafkaHeaders.OFFSET) long offset,
+            @Header(KafkaHeaders.RECEIVED_TIMESTAMP) long failedAt,
+            @Header(name = KafkaHeaders.DLT_EXCEPTION_FQCN, required = false) String exceptionFqcn,
+            @Header(name = KafkaHeaders.DLT_EXCEPTION_CAUSE_FQCN, required = false) String causeFqcn
     ) {
 
         log.error("🔥 MENSAGEM NA DLT");
-        log.error("Payload recebido (pode estar vazio): {}", order);
+        log.error("Payload recebido (pode estar vazio): {}",
+                payload != null ? new String(payload, StandardCharsets.UTF_8) : null);
         log.error("Erro original: {}", exceptionMessage);
         log.error("Tópico original: {}", originalTopic);
         log.error("Offset original: {}", offset);
+
+        statsService.record(
+                exceptionType(causeFqcn != null ? causeFqcn : exceptionFqcn),
+                product(payload),
+                failedAt
+        );
+    }
+
+    /**
+     * Extrai o campo "product" do JSON, se possível.
+     *
+     * Payload inválido não é erro aqui: a falha é registrada sem produto.
+     */
+    private String product(byte[] payload) {
+
+        if (payload == null || payload.length == 0) {
+            return null;
+        }
+
+        try {
+            JsonNode root = objectMapper.readTree(payload);
+            JsonNode product = root != null ? root.get("product") : null;
+
+            return product != null && product.isTextual() ? product.asText() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Reduz o FQCN ao nome simples da classe (ex: BusinessException),
+     * deixando os agrupamentos do /dlt/stats mais legíveis.
+     */
+    private static String exceptionType(String fqcn) {
+
+        if (fqcn == null) {
+            return null;
+        }
+
+        return fqcn.substring(fqcn.lastIndexOf('.') + 1);
     }
 }
@@ -0,0 +1,40 @@
+package com.michaeltoledo.orderapi.controller;
+
+import com.michaeltoledo.orderapi.dto.DltStatsResponse;
+import com.michaeltoledo.orderapi.service.DltStatsService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Controller de observabilidade da Dead Letter Topic.
+ *
+ * Expõe consultas agrupadas sobre o índice em memória mantido
+ * pelo DltStatsService, alimentado pelo OrderDltConsumer.
+ */
+@RestController
+@RequestMapping("/dlt")
+public class DltStatsController {
+
+    private final DltStatsService statsService;
+
+    public DltStatsController(DltStatsService statsService) {
+        this.statsService = statsService;
+    }
+
+    /**
+     * Retorna as falhas da DLT agrupadas por exceção, produto e tempo.
+     *
+     * Exemplo:
+     * GET /dlt/stats?minutes=10&top=5
+     *
+     * @param minutes janela de tempo (limitada à retenção configurada)
+     * @param top     quantidade máxima de grupos por dimensão
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<DltStatsResponse> stats(
+            @RequestParam(defaultValue = "10") int minutes,
+            @RequestParam(defaultValue = "10") int top
+    ) {
+        return ResponseEntity.ok(statsService.stats(minutes, top));
+    }
+}
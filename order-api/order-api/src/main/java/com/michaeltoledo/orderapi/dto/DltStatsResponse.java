@@ -0,0 +1,51 @@
+package com.michaeltoledo.orderapi.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * DTO de resposta do endpoint GET /dlt/stats.
+ *
+ * Representa um "retrato" das falhas que chegaram na DLT
+ * dentro da janela de tempo consultada.
+ *
+ * @param from       início da janela (alinhado ao bucket mais antigo incluído)
+ * @param to         momento da consulta
+ * @param total      total de mensagens na DLT dentro da janela
+ * @param dropped    mensagens contadas mas não indexadas (bucket cheio)
+ * @param expired    mensagens descartadas por serem mais antigas que a retenção
+ *                   (acumulado desde o início do processo, não apenas da janela)
+ * @param exceptionOverflow falhas cujo tipo de exceção não coube no dicionário do bucket
+ * @param productOverflow   falhas cujo produto não coube no dicionário do bucket
+ * @param byException contagem agrupada por tipo de exceção (top N)
+ * @param byProduct  contagem agrupada por produto (top N)
+ * @param timeline   contagem por bucket de tempo (mais antigo → mais recente),
+ *                   com uma entrada para cada bucket da janela, inclusive os vazios
+ */
+public record DltStatsResponse(
+        Instant from,
+        Instant to,
+        long total,
+        long dropped,
+        long expired,
+        long exceptionOverflow,
+        long productOverflow,
+        List<GroupCount> byException,
+        List<GroupCount> byProduct,
+        List<BucketCount> timeline
+) {
+
+    /**
+     * Contagem de um valor agrupado (ex: "BusinessException" → 42).
+     *
+     * key null = valor ausente (ex: payload que não desserializou, sem produto).
+     */
+    public record GroupCount(String key, long count) {
+    }
+
+    /**
+     * Contagem de um bucket de tempo.
+     */
+    public record BucketCount(Instant start, long count) {
+    }
+}
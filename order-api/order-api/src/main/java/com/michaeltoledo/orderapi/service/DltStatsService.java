@@ -0,0 +1,395 @@
+package com.michaeltoledo.orderapi.service;
+
+import com.michaeltoledo.orderapi.dto.DltStatsResponse;
+import com.michaeltoledo.orderapi.dto.DltStatsResponse.BucketCount;
+import com.michaeltoledo.orderapi.dto.DltStatsResponse.GroupCount;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice analítico em memória das mensagens que chegaram na DLT.
+ *
+ * Problema que resolve:
+ * - Durante um incidente precisamos responder rápido perguntas como
+ *   "quantas falhas por tipo de exceção e por produto nos últimos 10 minutos?"
+ * - Os logs do OrderDltConsumer não permitem isso sem ferramentas externas
+ *
+ * Como funciona:
+ * - Armazenamento colunar: cada bucket guarda arrays primitivos (int[])
+ *   em vez de objetos, evitando overhead de memória e de GC
+ * - Exceção e produto são codificados por dicionário (String → int)
+ * - Os registros são agrupados em buckets pelo horário da FALHA
+ *   (não pelo horário em que a DLT foi lida), em um ring buffer
+ * - Quando o tempo avança além da retenção, o bucket mais antigo é reaproveitado
+ *
+ * Dicionários por bucket:
+ * - Cada bucket tem seus próprios dicionários, descartados junto com ele
+ * - Na consulta, as contagens dos buckets são unidas pela String
+ * - Assim um produto novo nunca fica "preso" no overflow por causa do histórico
+ *
+ * Valores especiais (não podem ser produzidos pelo cliente):
+ * - Valor nulo/vazio → grupo com key null
+ * - Dicionário cheio → não entra nos grupos; contado em exceptionOverflow / productOverflow
+ *
+ * Memória limitada (pior caso com os valores padrão):
+ * - Colunas: buckets × max-entries-per-bucket × 2 ints
+ *   = 60 × 100.000 × 8 bytes ≈ 48 MB
+ * - Dicionários: buckets × 2 × max-dictionary-size chaves de até max-key-length caracteres
+ *   = 60 × 2 × 1.000 × ~500 bytes (String UTF-16 de 200 chars + entrada do HashMap) ≈ 60 MB
+ * - Total ≈ 110 MB, alcançado apenas com buckets cheios e chaves únicas de tamanho máximo
+ *
+ * Observação:
+ * - Assim como o ProcessedOrderService, é um estado local da instância
+ * - Em produção, com várias réplicas, cada uma vê apenas suas partições da DLT
+ */
+@Service
+public class DltStatsService {
+
+    private static final int INITIAL_BUCKET_CAPACITY = 1024;
+
+    private final Clock clock;
+
+    private final long bucketMillis;
+
+    private final int maxEntriesPerBucket;
+
+    private final Bucket[] buckets;
+
+    /**
+     * Falhas descartadas por serem mais antigas que a retenção.
+     * Acumulado desde o início do processo.
+     */
+    private long expired;
+
+    /**
+     * Leituras (consultas HTTP) podem rodar em paralelo.
+     * Escritas (consumer da DLT) são exclusivas.
+     */
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Autowired
+    public DltStatsService(
+            @Value("${dlt.stats.bucket-seconds:60}") long bucketSeconds,
+            @Value("${dlt.stats.buckets:60}") int bucketCount,
+            @Value("${dlt.stats.max-entries-per-bucket:100000}") int maxEntriesPerBucket,
+            @Value("${dlt.stats.max-dictionary-size:1000}") int maxDictionarySize,
+            @Value("${dlt.stats.max-key-length:200}") int maxKeyLength
+    ) {
+        this(Clock.systemUTC(), bucketSeconds, bucketCount, maxEntriesPerBucket, maxDictionarySize, maxKeyLength);
+    }
+
+    DltStatsService(
+            Clock clock,
+            long bucketSeconds,
+            int bucketCount,
+            int maxEntriesPerBucket,
+            int maxDictionarySize,
+            int maxKeyLength
+    ) {
+        if (bucketSeconds <= 0 || bucketCount <= 0 || maxEntriesPerBucket <= 0
+                || maxDictionarySize <= 0 || maxKeyLength <= 0) {
+            throw new IllegalArgumentException("Configuração de dlt.stats deve ser positiva");
+        }
+
+        this.clock = clock;
+        this.bucketMillis = bucketSeconds * 1000L;
+        this.maxEntriesPerBucket = maxEntriesPerBucket;
+        this.buckets = new Bucket[bucketCount];
+
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = new Bucket(
+                    Math.min(INITIAL_BUCKET_CAPACITY, maxEntriesPerBucket),
+                    maxDictionarySize,
+                    maxKeyLength
+            );
+        }
+    }
+
+    /**
+     * Registra uma falha que chegou na DLT.
+     *
+     * @param exception tipo da exceção original
+     * @param product   produto do pedido (pode ser null se o payload não desserializou)
+     * @param failedAt  horário da falha em epoch millis (ex: timestamp original do registro)
+     */
+    public void record(String exception, String product, long failedAt) {
+
+        long currentEpoch = clock.millis() / bucketMillis;
+
+        // Timestamp "no futuro" (relógio do broker adiantado): conta como agora
+        long epoch = Math.min(Math.floorDiv(failedAt, bucketMillis), currentEpoch);
+
+        lock.writeLock().lock();
+        try {
+            // Mais antiga que a retenção (ex: backlog da DLT após restart): não indexa
+            if (epoch <= currentEpoch - buckets.length) {
+                expired++;
+                return;
+            }
+
+            Bucket bucket = buckets[slot(epoch)];
+
+            if (bucket.epoch < epoch) {
+                // Tempo avançou além da retenção: descarta o bucket mais antigo
+                bucket.reset(epoch);
+            } else if (bucket.epoch > epoch) {
+                // Slot já pertence a um período mais novo (só ocorre se o relógio local voltou)
+                expired++;
+                return;
+            }
+
+            bucket.add(exception, product, maxEntriesPerBucket);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Consulta as falhas dos últimos N minutos.
+     *
+     * Os buckets da janela são varridos coluna a coluna,
+     * incrementando contadores indexados pelo id do dicionário do bucket.
+     * Depois, as contagens de cada bucket são somadas pela String.
+     *
+     * A timeline tem uma entrada para CADA bucket da janela (inclusive os vazios).
+     *
+     * @param minutes tamanho da janela (limitado à retenção configurada)
+     * @param top     quantidade máxima de grupos retornados por dimensão
+     */
+    public DltStatsResponse stats(int minutes, int top) {
+
+        long now = clock.millis();
+        long currentEpoch = now / bucketMillis;
+
+        long windowBuckets = (Math.max(1, minutes) * 60_000L + bucketMillis - 1) / bucketMillis;
+        long oldestEpoch = currentEpoch - Math.min(windowBuckets, buckets.length) + 1;
+        int limit = Math.max(1, top);
+
+        lock.readLock().lock();
+        try {
+            Map<String, Long> exceptionCounts = new HashMap<>();
+            Map<String, Long> productCounts = new HashMap<>();
+            List<BucketCount> timeline = new ArrayList<>();
+            long total = 0;
+            long dropped = 0;
+            long exceptionOverflow = 0;
+            long productOverflow = 0;
+
+            for (long epoch = oldestEpoch; epoch <= currentEpoch; epoch++) {
+                Bucket bucket = buckets[slot(epoch)];
+                Instant start = Instant.ofEpochMilli(epoch * bucketMillis);
+
+                // Slot vazio ou ainda com dados de um período anterior à janela
+                if (bucket.epoch != epoch) {
+                    timeline.add(new BucketCount(start, 0));
+                    continue;
+                }
+
+                long[] bucketExceptions = new long[bucket.exceptions.size()];
+                long[] bucketProducts = new long[bucket.products.size()];
+                int[] exceptionIds = bucket.exceptionIds;
+                int[] productIds = bucket.productIds;
+
+                for (int i = 0; i < bucket.size; i++) {
+                    bucketExceptions[exceptionIds[i]]++;
+                    bucketProducts[productIds[i]]++;
+                }
+
+                exceptionOverflow += bucket.exceptions.mergeInto(bucketExceptions, exceptionCounts);
+                productOverflow += bucket.products.mergeInto(bucketProducts, productCounts);
+
+                total += bucket.size + bucket.dropped;
+                dropped += bucket.dropped;
+                timeline.add(new BucketCount(start, bucket.size + bucket.dropped));
+            }
+
+            return new DltStatsResponse(
+                    Instant.ofEpochMilli(oldestEpoch * bucketMillis),
+                    Instant.ofEpochMilli(now),
+                    total,
+                    dropped,
+                    expired,
+                    exceptionOverflow,
+                    productOverflow,
+                    topN(exceptionCounts, limit),
+                    topN(productCounts, limit),
+                    timeline
+            );
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int slot(long epoch) {
+        return (int) Math.floorMod(epoch, (long) buckets.length);
+    }
+
+    /**
+     * Ordena os grupos por contagem (decrescente) e devolve os N maiores.
+     */
+    private static List<GroupCount> topN(Map<String, Long> counts, int limit) {
+
+        List<GroupCount> groups = new ArrayList<>(counts.size());
+
+        counts.forEach((key, count) -> groups.add(new GroupCount(key, count)));
+
+        groups.sort((a, b) -> Long.compare(b.count(), a.count()));
+
+        return groups.size() > limit ? List.copyOf(groups.subList(0, limit)) : groups;
+    }
+
+    /**
+     * Bucket de tempo com colunas em arrays primitivos.
+     *
+     * Os arrays crescem sob demanda até maxEntriesPerBucket
+     * e são reaproveitados quando o bucket é reciclado.
+     * Os dicionários são limpos junto com o bucket.
+     */
+    private static final class Bucket {
+
+        long epoch = Long.MIN_VALUE;
+
+        int size;
+
+        int dropped;
+
+        int[] exceptionIds;
+
+        int[] productIds;
+
+        final Dictionary exceptions;
+
+        final Dictionary products;
+
+        Bucket(int initialCapacity, int maxDictionarySize, int maxKeyLength) {
+            this.exceptionIds = new int[initialCapacity];
+            this.productIds = new int[initialCapacity];
+            this.exceptions = new Dictionary(maxDictionarySize, maxKeyLength);
+            this.products = new Dictionary(maxDictionarySize, maxKeyLength);
+        }
+
+        void reset(long newEpoch) {
+            this.epoch = newEpoch;
+            this.size = 0;
+            this.dropped = 0;
+            exceptions.clear();
+            products.clear();
+        }
+
+        void add(String exception, String product, int maxEntries) {
+
+            if (size == exceptionIds.length) {
+                if (size >= maxEntries) {
+                    // Bucket cheio: conta no total, mas não indexa
+                    dropped++;
+                    return;
+                }
+
+                int capacity = (int) Math.min((long) size * 2, maxEntries);
+                exceptionIds = Arrays.copyOf(exceptionIds, capacity);
+                productIds = Arrays.copyOf(productIds, capacity);
+            }
+
+            exceptionIds[size] = exceptions.encode(exception);
+            productIds[size] = products.encode(product);
+            size++;
+        }
+    }
+
+    /**
+     * Dicionário String ↔ int de um bucket.
+     *
+     * Ids reservados:
+     * - UNKNOWN (0): valor nulo ou vazio
+     * - OVERFLOW (1): limite de valores distintos atingido
+     *
+     * Valores maiores que maxKeyLength são truncados
+     * (product vem do cliente HTTP e pode ter qualquer tamanho).
+     */
+    private static final class Dictionary {
+
+        private static final int UNKNOWN = 0;
+
+        private static final int OVERFLOW = 1;
+
+        private static final int RESERVED = 2;
+
+        private final int maxSize;
+
+        private final int maxKeyLength;
+
+        private final Map<String, Integer> ids = new HashMap<>();
+
+        private final List<String> values = new ArrayList<>();
+
+        Dictionary(int maxSize, int maxKeyLength) {
+            this.maxSize = maxSize;
+            this.maxKeyLength = maxKeyLength;
+            clear();
+        }
+
+        void clear() {
+            ids.clear();
+            values.clear();
+            values.add(null); // UNKNOWN
+            values.add(null); // OVERFLOW
+        }
+
+        int encode(String value) {
+
+            if (value == null || value.isBlank()) {
+                return UNKNOWN;
+            }
+
+            if (value.length() > maxKeyLength) {
+                value = value.substring(0, maxKeyLength);
+            }
+
+            Integer id = ids.get(value);
+
+            if (id != null) {
+                return id;
+            }
+
+            if (values.size() - RESERVED >= maxSize) {
+                return OVERFLOW;
+            }
+
+            int newId = values.size();
+            values.add(value);
+            ids.put(value, newId);
+
+            return newId;
+        }
+
+        /**
+         * Soma as contagens por id no mapa global da consulta, usando a String como chave
+         * (UNKNOWN vira a key null).
+         *
+         * @return contagem de OVERFLOW, que não entra nos grupos
+         */
+        long mergeInto(long[] counts, Map<String, Long> target) {
+            for (int id = 0; id < counts.length; id++) {
+                if (id != OVERFLOW && counts[id] > 0) {
+                    target.merge(values.get(id), counts[id], Long::sum);
+                }
+            }
+
+            return counts[OVERFLOW];
+        }
+
+        int size() {
+            return values.size();
+        }
+    }
+}
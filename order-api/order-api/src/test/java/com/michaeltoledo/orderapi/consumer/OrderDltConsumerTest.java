@@ -0,0 +1,83 @@
+package com.michaeltoledo.orderapi.consumer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.michaeltoledo.orderapi.dto.DltStatsResponse;
+import com.michaeltoledo.orderapi.dto.DltStatsResponse.GroupCount;
+import com.michaeltoledo.orderapi.service.DltStatsService;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OrderDltConsumerTest {
+
+    private static final String LISTENER_FAILED =
+            "org.springframework.kafka.listener.ListenerExecutionFailedException";
+
+    private final DltStatsService statsService = new DltStatsService(60, 60, 1000, 100, 200);
+
+    private final OrderDltConsumer consumer = new OrderDltConsumer(statsService, new ObjectMapper());
+
+    @Test
+    void recordsCauseTypeAndProductFromPayload() {
+
+        consume(
+                "{\"orderId\":\"order-1\",\"product\":\"Notebook\",\"quantity\":0}",
+                System.currentTimeMillis(),
+                LISTENER_FAILED,
+                "com.michaeltoledo.orderapi.exception.BusinessException"
+        );
+
+        DltStatsResponse stats = statsService.stats(2, 10);
+
+        assertEquals(List.of(new GroupCount("BusinessException", 1)), stats.byException());
+        assertEquals(List.of(new GroupCount("Notebook", 1)), stats.byProduct());
+    }
+
+    @Test
+    void recordsPoisonPayloadWithoutProduct() {
+
+        consume(
+                "{not json",
+                System.currentTimeMillis(),
+                "org.springframework.kafka.support.serializer.DeserializationException",
+                "com.fasterxml.jackson.core.JsonParseException"
+        );
+        consume(null, System.currentTimeMillis(), LISTENER_FAILED, null);
+
+        DltStatsResponse stats = statsService.stats(2, 10);
+
+        assertEquals(2, stats.total());
+        assertEquals(List.of(
+                new GroupCount("JsonParseException", 1),
+                new GroupCount("ListenerExecutionFailedException", 1)
+        ), stats.byException().stream().sorted((a, b) -> a.key().compareTo(b.key())).toList());
+        assertEquals(List.of(new GroupCount(null, 2)), stats.byProduct());
+    }
+
+    @Test
+    void usesDltRecordTimestampAsFailureTime() {
+
+        // Registro na DLT de 2 horas atrás: fora da retenção de 1 hora
+        consume("{\"product\":\"Notebook\"}", System.currentTimeMillis() - 2 * 60 * 60_000L, LISTENER_FAILED, null);
+
+        DltStatsResponse stats = statsService.stats(60, 10);
+
+        assertEquals(0, stats.total());
+        assertEquals(1, stats.expired());
+    }
+
+    private void consume(String payload, long failedAt, String exceptionFqcn, String causeFqcn) {
+        consumer.consumeDlt(
+                payload != null ? payload.getBytes(StandardCharsets.UTF_8) : null,
+                "erro",
+                "orders",
+                0L,
+                failedAt,
+                exceptionFqcn,
+                causeFqcn
+        );
+    }
+}
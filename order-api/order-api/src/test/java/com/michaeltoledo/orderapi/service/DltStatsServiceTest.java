@@ -0,0 +1,288 @@
+package com.michaeltoledo.orderapi.service;
+
+import com.michaeltoledo.orderapi.dto.DltStatsResponse;
+import com.michaeltoledo.orderapi.dto.DltStatsResponse.BucketCount;
+import com.michaeltoledo.orderapi.dto.DltStatsResponse.GroupCount;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DltStatsServiceTest {
+
+    private static final long MINUTE = 60_000L;
+
+    private static final long BASE = Instant.parse("2026-01-01T10:00:00Z").toEpochMilli();
+
+    private final MutableClock clock = new MutableClock(BASE);
+
+    @Test
+    void groupsByExceptionAndProductOrderedAndTruncatedToTop() {
+
+        DltStatsService service = new DltStatsService(clock, 60, 10, 1000, 100, 200);
+        clock.set(BASE + 30_000);
+
+        record(service, 5, "BusinessException", "Notebook", clock.millis());
+        record(service, 3, "TemporaryException", "Mouse", clock.millis());
+        record(service, 1, "JsonParseException", null, clock.millis());
+
+        DltStatsResponse top2 = service.stats(10, 2);
+
+        assertEquals(9, top2.total());
+        assertEquals(List.of(
+                new GroupCount("BusinessException", 5),
+                new GroupCount("TemporaryException", 3)
+        ), top2.byException());
+        assertEquals(List.of(
+                new GroupCount("Notebook", 5),
+                new GroupCount("Mouse", 3)
+        ), top2.byProduct());
+
+        DltStatsResponse all = service.stats(10, 10);
+
+        assertEquals(3, all.byException().size());
+        assertEquals(new GroupCount(null, 1), all.byProduct().get(2));
+    }
+
+    @Test
+    void recyclesBucketOnceClockMovesPastRetention() {
+
+        DltStatsService service = new DltStatsService(clock, 60, 5, 1000, 100, 200);
+
+        record(service, 4, "BusinessException", "Notebook", BASE);
+        assertEquals(4, service.stats(5, 10).total());
+
+        // 5 buckets × 60s: o slot de BASE agora pertence ao período atual
+        clock.set(BASE + 5 * MINUTE);
+        assertEquals(0, service.stats(5, 10).total());
+
+        record(service, 1, "TemporaryException", "Mouse", clock.millis());
+
+        DltStatsResponse stats = service.stats(5, 10);
+
+        assertEquals(1, stats.total());
+        assertEquals(List.of(new GroupCount("TemporaryException", 1)), stats.byException());
+        assertEquals(List.of(new GroupCount("Mouse", 1)), stats.byProduct());
+    }
+
+    @Test
+    void windowIsAlignedToBucketsAndCappedByRetention() {
+
+        DltStatsService service = new DltStatsService(clock, 60, 10, 1000, 100, 200);
+        clock.set(Instant.parse("2026-01-01T10:05:30Z").toEpochMilli());
+
+        service.record("BusinessException", "Notebook", Instant.parse("2026-01-01T10:04:10Z").toEpochMilli());
+        service.record("BusinessException", "Notebook", Instant.parse("2026-01-01T10:05:10Z").toEpochMilli());
+
+        DltStatsResponse lastMinute = service.stats(1, 10);
+
+        assertEquals(Instant.parse("2026-01-01T10:05:00Z"), lastMinute.from());
+        assertEquals(Instant.parse("2026-01-01T10:05:30Z"), lastMinute.to());
+        assertEquals(1, lastMinute.total());
+
+        assertEquals(2, service.stats(2, 10).total());
+
+        // Janela maior que a retenção: limitada a 10 buckets
+        DltStatsResponse capped = service.stats(1000, 10);
+
+        assertEquals(Instant.parse("2026-01-01T09:56:00Z"), capped.from());
+        assertEquals(2, capped.total());
+
+        // Uma entrada por bucket da janela, inclusive os vazios
+        assertEquals(10, capped.timeline().size());
+        assertEquals(new BucketCount(Instant.parse("2026-01-01T09:56:00Z"), 0), capped.timeline().get(0));
+        assertEquals(new BucketCount(Instant.parse("2026-01-01T10:03:00Z"), 0), capped.timeline().get(7));
+        assertEquals(new BucketCount(Instant.parse("2026-01-01T10:04:00Z"), 1), capped.timeline().get(8));
+        assertEquals(new BucketCount(Instant.parse("2026-01-01T10:05:00Z"), 1), capped.timeline().get(9));
+    }
+
+    @Test
+    void overflowIsCountedInTotalButNotInGroups() {
+
+        DltStatsService service = new DltStatsService(clock, 60, 10, 4, 100, 200);
+
+        record(service, 6, "BusinessException", "Notebook", BASE);
+
+        DltStatsResponse stats = service.stats(1, 10);
+
+        assertEquals(6, stats.total());
+        assertEquals(2, stats.dropped());
+        assertEquals(List.of(new GroupCount("BusinessException", 4)), stats.byException());
+        assertEquals(List.of(new GroupCount("Notebook", 4)), stats.byProduct());
+        assertEquals(6, stats.timeline().get(0).count());
+    }
+
+    @Test
+    void valuesPastDictionarySizeAreReportedAsOverflowUntilBucketIsRecycled() {
+
+        DltStatsService service = new DltStatsService(clock, 60, 5, 1000, 2, 200);
+
+        service.record("BusinessException", "A", BASE);
+        service.record("BusinessException", "B", BASE);
+        service.record("BusinessException", "C", BASE);
+        service.record("BusinessException", "D", BASE);
+
+        DltStatsResponse full = service.stats(1, 10);
+
+        assertEquals(4, full.total());
+        assertEquals(2, full.productOverflow());
+        assertEquals(0, full.exceptionOverflow());
+        assertEquals(List.of(new GroupCount("A", 1), new GroupCount("B", 1)), full.byProduct());
+
+        // Após a reciclagem, o dicionário do bucket recomeça vazio
+        clock.set(BASE + 5 * MINUTE);
+        service.record("BusinessException", "E", clock.millis());
+
+        DltStatsResponse recycled = service.stats(1, 10);
+
+        assertEquals(List.of(new GroupCount("E", 1)), recycled.byProduct());
+        assertEquals(0, recycled.productOverflow());
+    }
+
+    @Test
+    void missingValuesAndOverflowAreNotMixedWithRealValues() {
+
+        DltStatsService service = new DltStatsService(clock, 60, 5, 1000, 1, 200);
+
+        service.record("BusinessException", "<outros>", BASE);
+        service.record("BusinessException", null, BASE);
+        service.record("BusinessException", " ", BASE);
+        service.record("BusinessException", "Notebook", BASE);
+
+        DltStatsResponse stats = service.stats(1, 10);
+
+        assertEquals(List.of(new GroupCount(null, 2), new GroupCount("<outros>", 1)), stats.byProduct());
+        assertEquals(1, stats.productOverflow());
+    }
+
+    @Test
+    void dictionaryKeysAreTruncatedToMaxKeyLength() {
+
+        DltStatsService service = new DltStatsService(clock, 60, 5, 1000, 100, 10);
+
+        service.record("BusinessException", "x".repeat(10_000), BASE);
+
+        assertEquals("x".repeat(10), service.stats(1, 10).byProduct().get(0).key());
+    }
+
+    @Test
+    void bucketsByFailureTimeAndExpiresRecordsOlderThanRetention() {
+
+        DltStatsService service = new DltStatsService(clock, 60, 5, 1000, 100, 200);
+        clock.set(BASE + 10 * MINUTE);
+
+        // Backlog lido com atraso: vai para o bucket da falha, não para o atual
+        service.record("BusinessException", "Notebook", BASE + 8 * MINUTE);
+        // Mais antigo que a retenção (5 minutos)
+        service.record("BusinessException", "Notebook", BASE + 5 * MINUTE);
+        // Timestamp no futuro: conta como agora
+        service.record("BusinessException", "Notebook", BASE + 20 * MINUTE);
+
+        DltStatsResponse stats = service.stats(5, 10);
+
+        assertEquals(2, stats.total());
+        assertEquals(1, stats.expired());
+        assertEquals(List.of(
+                new BucketCount(Instant.ofEpochMilli(BASE + 6 * MINUTE), 0),
+                new BucketCount(Instant.ofEpochMilli(BASE + 7 * MINUTE), 0),
+                new BucketCount(Instant.ofEpochMilli(BASE + 8 * MINUTE), 1),
+                new BucketCount(Instant.ofEpochMilli(BASE + 9 * MINUTE), 0),
+                new BucketCount(Instant.ofEpochMilli(BASE + 10 * MINUTE), 1)
+        ), stats.timeline());
+        assertEquals(1, service.stats(1, 10).total());
+    }
+
+    @Test
+    void recordOlderThanRecycledBucketIsNotMixedIntoIt() {
+
+        DltStatsService service = new DltStatsService(clock, 60, 5, 1000, 100, 200);
+        clock.set(BASE + 5 * MINUTE);
+
+        service.record("BusinessException", "Notebook", clock.millis());
+
+        // Relógio local voltou: o slot de BASE já pertence a BASE + 5min
+        clock.set(BASE);
+        service.record("TemporaryException", "Mouse", BASE);
+
+        clock.set(BASE + 5 * MINUTE);
+        DltStatsResponse stats = service.stats(1, 10);
+
+        assertEquals(1, stats.total());
+        assertEquals(1, stats.expired());
+        assertEquals(List.of(new GroupCount("BusinessException", 1)), stats.byException());
+    }
+
+    @Test
+    void groupsAcrossAllBucketsAtFullCapacity() {
+
+        DltStatsService service = new DltStatsService(clock, 60, 10, 1_000, 100, 200);
+        clock.set(BASE + 10 * MINUTE - 1);
+
+        for (int bucket = 0; bucket < 10; bucket++) {
+            long failedAt = BASE + bucket * MINUTE;
+
+            for (int i = 0; i < 1_000; i++) {
+                service.record("Exception" + (i % 20), "Product" + (i % 50), failedAt);
+            }
+        }
+
+        DltStatsResponse stats = service.stats(10, 5);
+
+        assertEquals(10_000, stats.total());
+        assertEquals(0, stats.dropped());
+        assertEquals(10, stats.timeline().size());
+        assertTrue(stats.timeline().stream().allMatch(bucket -> bucket.count() == 1_000));
+        assertEquals(5, stats.byException().size());
+        assertTrue(stats.byException().stream().allMatch(group -> group.count() == 500));
+        assertEquals(5, stats.byProduct().size());
+        assertTrue(stats.byProduct().stream().allMatch(group -> group.count() == 200));
+    }
+
+    private static void record(DltStatsService service, int times, String exception, String product, long failedAt) {
+        for (int i = 0; i < times; i++) {
+            service.record(exception, product, failedAt);
+        }
+    }
+
+    /**
+     * Clock controlado pelo teste.
+     */
+    private static final class MutableClock extends Clock {
+
+        private long millis;
+
+        MutableClock(long millis) {
+            this.millis = millis;
+        }
+
+        void set(long millis) {
+            this.millis = millis;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}